@@ -29,6 +29,14 @@ public final class Address {
      * offset of kind in an ndau address.
      */
     private static final int KIND_OFFSET = Address.ADDR_PREFIX.length();
+    /**
+     * Length of the decoded bytes of an ndau address, including the checksum.
+     */
+    static final int DECODED_LENGTH = Base32.decodedLen(ADDR_LENGTH);
+    /**
+     * Length of the checksum at the end of the decoded bytes.
+     */
+    private static final int CHECKSUM_LENGTH = 2;
     /**
      * string representation of this address.
      */
@@ -46,15 +54,6 @@ public final class Address {
         this.addr = addrCopy;
     }
 
-    private static Pair<byte[], byte[]> splitAddrData(final byte[] addrData) {
-        final byte[] data = new byte[addrData.length - 2];
-        final byte[] cksum = new byte[2];
-
-        System.arraycopy(addrData, 0, data, 0, addrData.length - 2);
-        System.arraycopy(addrData, addrData.length - 2, cksum, 0, 2);
-        return new Pair<>(data, cksum);
-    }
-
     /**
      * Validate a string as an address.
      *
@@ -62,6 +61,21 @@ public final class Address {
      * @throws InvalidAddress if the provided string is not a valid address.
      */
     public static void validate(final String addr) throws InvalidAddress {
+        Address.decode(addr, new byte[DECODED_LENGTH], 0);
+    }
+
+    /**
+     * Validate a string as an address, writing its decoded bytes into dst.
+     * <p>
+     * This performs exactly the checks of validate, but without intermediate
+     * allocations, so that bulk operations can work on the decoded form directly.
+     *
+     * @param addr should be an ndau address
+     * @param dst  destination array; DECODED_LENGTH bytes are written to it.
+     * @param off  offset in dst at which to begin writing.
+     * @throws InvalidAddress if the provided string is not a valid address.
+     */
+    static void decode(final String addr, final byte[] dst, final int off) throws InvalidAddress {
         if (!addr.startsWith(ADDR_PREFIX)) {
             throw new InvalidAddress(
                     String.format("Address must begin with the prefix %s", ADDR_PREFIX));
@@ -71,18 +85,18 @@ public final class Address {
                     String.format("Address must have length %d", ADDR_LENGTH));
         }
         try {
-            Address.Kind.parse(addr.getBytes()[KIND_OFFSET]);
+            Address.Kind.parse((byte) addr.charAt(KIND_OFFSET));
         } catch (final IllegalArgumentException e) {
             throw new InvalidAddress(e);
         }
-        final byte[] h;
         try {
-            h = Base32.NDAU_ENCODING.decodeString(addr);
+            Base32.NDAU_ENCODING.decodeBlocks(addr, dst, off);
         } catch (final CorruptInputError e) {
             throw new InvalidAddress(e);
         }
-        final Pair<byte[], byte[]> pair = Address.splitAddrData(h);
-        if (!Checksum.check(pair.x, pair.y)) {
+        final int dataLength = DECODED_LENGTH - CHECKSUM_LENGTH;
+        final int ck = Checksum.crc16(dst, off, dataLength);
+        if ((byte) (ck >>> 8) != dst[off + dataLength] || (byte) ck != dst[off + dataLength + 1]) {
             throw new InvalidAddress("checksum failure");
         }
     }
@@ -162,14 +176,4 @@ public final class Address {
             }
         }
     }
-
-    private static class Pair<X, Y> {
-        final X x;
-        final Y y;
-
-        Pair(final X x, final Y y) {
-            this.x = x;
-            this.y = y;
-        }
-    }
 }
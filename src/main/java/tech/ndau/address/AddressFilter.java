@@ -0,0 +1,215 @@
+/*
+ * This library is licensed under version 3.0 of the GNU Lesser General Public License as
+ * published by the Free Software Foundation.
+ *
+ * This software is distributed WITHOUT ANY WARRANTY; without even the implied
+ * warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License 3.0 for more details.
+ *
+ * Copyright © 2020 The Axiom Foundation
+ */
+
+package tech.ndau.address;
+
+import tech.ndau.b32.Base32;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.LongBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Collection;
+
+/**
+ * A compact probabilistic set of addresses, for screening against a blocklist.
+ * <p>
+ * mightContain never returns false for an address which was in the set it was
+ * built from, and returns true for other addresses only rarely; positives should
+ * be confirmed against an exact store.
+ * <p>
+ * This is a split-block Bloom filter: each address sets one bit in each of the
+ * 8 words of a single 64-byte block, so a query touches one cache line. It is
+ * keyed on the last 15 decoded bytes of the address, which are hash output and
+ * checksum, so no general-purpose string hashing is needed.
+ * <p>
+ * A filter is immutable once built, so queries are safe from any number of
+ * threads without locking. It may be backed by a memory-mapped file.
+ */
+@SuppressWarnings("WeakerAccess")
+public final class AddressFilter {
+    /**
+     * Identifies serialized filters: "ndaubf" followed by a format version.
+     */
+    private static final long MAGIC = 0x6e64617562660001L;
+    /**
+     * Serialized header length: magic and block count.
+     */
+    private static final int HEADER_BYTES = 2 * Long.BYTES;
+    /**
+     * Number of longs per block.
+     */
+    private static final int BLOCK_WORDS = 8;
+    /**
+     * Bits per block.
+     */
+    private static final int BLOCK_BITS = BLOCK_WORDS * Long.SIZE;
+    /**
+     * Most blocks a filter may have, so that its serialized form fits one ByteBuffer.
+     */
+    private static final int MAX_BLOCKS = (Integer.MAX_VALUE - HEADER_BYTES) / (BLOCK_WORDS * Long.BYTES);
+    /**
+     * Odd multipliers which select a bit in each word of a block.
+     */
+    private static final int[] SALT = {
+            0x47b6137b, 0x44974d91, 0x8824ad5b, 0xa2b7289d,
+            0x705495c7, 0x2df1424b, 0x9efc4947, 0x5c6bfb31
+    };
+
+    private final LongBuffer words;
+    private final int blocks;
+
+    private AddressFilter(final LongBuffer words, final int blocks) {
+        this.words = words;
+        this.blocks = blocks;
+    }
+
+    /**
+     * Build a filter from a set of addresses.
+     * <p>
+     * At 16 bits per address the false positive rate is roughly 0.1%; at 8, roughly 3%.
+     * The filter may be at most just under 2 GiB, the most that readFrom and map can load.
+     *
+     * @param addrs       addresses to include
+     * @param bitsPerAddr filter size, in bits per address
+     * @return the filter
+     * @throws InvalidAddress if any address is not valid
+     * @throws IllegalArgumentException if the filter would exceed the size limit
+     */
+    public static AddressFilter build(final Collection<String> addrs, final int bitsPerAddr) throws InvalidAddress {
+        if (bitsPerAddr <= 0) {
+            throw new IllegalArgumentException("bitsPerAddr must be positive");
+        }
+        final long blocks = Math.max(1, ((long) addrs.size() * bitsPerAddr + BLOCK_BITS - 1) / BLOCK_BITS);
+        if (blocks > MAX_BLOCKS) {
+            throw new IllegalArgumentException("filter too large");
+        }
+        final long[] words = new long[(int) blocks * BLOCK_WORDS];
+        final byte[] buf = new byte[Address.DECODED_LENGTH];
+        for (final String addr : addrs) {
+            Address.decode(addr, buf, 0);
+            final long h = AddressKey.of(buf, 0);
+            final int at = AddressFilter.block(h, (int) blocks) * BLOCK_WORDS;
+            for (int i = 0; i < BLOCK_WORDS; i++) {
+                words[at + i] |= AddressFilter.mask(h, i);
+            }
+        }
+        return new AddressFilter(LongBuffer.wrap(words), (int) blocks);
+    }
+
+    /**
+     * Load a filter from serialized form without copying.
+     * <p>
+     * The filter reads directly from the buffer, which must not be modified afterwards.
+     *
+     * @param buf a buffer positioned at the start of a filter written by writeTo
+     * @return the filter
+     * @throws IllegalArgumentException if buf does not contain a valid filter
+     */
+    public static AddressFilter readFrom(final ByteBuffer buf) {
+        final ByteBuffer b = buf.duplicate();
+        if (b.remaining() < HEADER_BYTES || b.getLong() != MAGIC) {
+            throw new IllegalArgumentException("not a serialized address filter");
+        }
+        final long blocks = b.getLong();
+        if (blocks <= 0 || blocks > b.remaining() / (BLOCK_WORDS * Long.BYTES)) {
+            throw new IllegalArgumentException("truncated address filter");
+        }
+        final LongBuffer words = b.slice().asLongBuffer();
+        // Buffer.limit: LongBuffer's covariant override only exists from Java 9
+        ((Buffer) words).limit((int) blocks * BLOCK_WORDS);
+        return new AddressFilter(words, (int) blocks);
+    }
+
+    /**
+     * Memory-map a filter file written by writeTo.
+     *
+     * @param path location of the filter
+     * @return the filter, backed by the mapped file
+     * @throws IOException if the file cannot be mapped
+     * @throws IllegalArgumentException if the file does not contain a valid filter
+     */
+    public static AddressFilter map(final Path path) throws IOException {
+        try (FileChannel ch = FileChannel.open(path, StandardOpenOption.READ)) {
+            return AddressFilter.readFrom(ch.map(FileChannel.MapMode.READ_ONLY, 0, ch.size()));
+        }
+    }
+
+    /**
+     * Serialize this filter.
+     *
+     * @param out destination stream
+     * @throws IOException if writing fails
+     */
+    public void writeTo(final OutputStream out) throws IOException {
+        final DataOutputStream data = new DataOutputStream(new BufferedOutputStream(out));
+        data.writeLong(MAGIC);
+        data.writeLong(this.blocks);
+        for (int i = 0; i < this.blocks * BLOCK_WORDS; i++) {
+            data.writeLong(this.words.get(i));
+        }
+        data.flush();
+    }
+
+    /**
+     * Get the size of this filter's bit array.
+     *
+     * @return the size in bytes, excluding the header
+     */
+    public long sizeInBytes() {
+        return (long) this.blocks * BLOCK_WORDS * Long.BYTES;
+    }
+
+    /**
+     * Screen an address against this filter.
+     * <p>
+     * This neither allocates nor fully validates the address. Strings of the wrong
+     * length or containing invalid characters are rejected; other invalid addresses
+     * may produce positives, which the exact store will resolve.
+     *
+     * @param addr an address, in either case
+     * @return false if addr is definitely not in the set; true if it might be
+     */
+    public boolean mightContain(final CharSequence addr) {
+        if (addr.length() != Address.ADDR_LENGTH) {
+            return false;
+        }
+        final long q0 = Base32.NDAU_ENCODING.decodeQuantum(addr, AddressKey.CHAR_OFFSET);
+        final long q1 = Base32.NDAU_ENCODING.decodeQuantum(addr, AddressKey.CHAR_OFFSET + 8);
+        final long q2 = Base32.NDAU_ENCODING.decodeQuantum(addr, AddressKey.CHAR_OFFSET + 16);
+        if ((q0 | q1 | q2) < 0) {
+            return false;
+        }
+        final long h = AddressKey.mix(q0, q1, q2);
+        final int at = AddressFilter.block(h, this.blocks) * BLOCK_WORDS;
+        for (int i = 0; i < BLOCK_WORDS; i++) {
+            final long m = AddressFilter.mask(h, i);
+            if ((this.words.get(at + i) & m) != m) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int block(final long h, final int blocks) {
+        return (int) (((h >>> 32) * blocks) >>> 32);
+    }
+
+    private static long mask(final long h, final int i) {
+        return 1L << (((int) h * SALT[i]) >>> 26);
+    }
+}
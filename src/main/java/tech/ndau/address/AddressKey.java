@@ -0,0 +1,131 @@
+/*
+ * This library is licensed under version 3.0 of the GNU Lesser General Public License as
+ * published by the Free Software Foundation.
+ *
+ * This software is distributed WITHOUT ANY WARRANTY; without even the implied
+ * warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License 3.0 for more details.
+ *
+ * Copyright © 2020 The Axiom Foundation
+ */
+
+package tech.ndau.address;
+
+import tech.ndau.b32.Base32;
+
+/**
+ * Derives well-mixed 64-bit keys from the decoded bytes of addresses.
+ * <p>
+ * The key covers the last three base32 quanta of an address: decoded bytes 15
+ * through 29, which are hash output and checksum. Those bytes are already
+ * uniformly distributed, so one finalizer round is all the hashing required.
+ */
+final class AddressKey {
+    /**
+     * Offset in an address string of the first key quantum.
+     */
+    static final int CHAR_OFFSET = Address.ADDR_LENGTH - 3 * 8;
+    /**
+     * Offset in decoded address bytes of the first key quantum.
+     */
+    static final int BYTE_OFFSET = Base32.decodedLen(CHAR_OFFSET);
+    /**
+     * Index of the first key quantum.
+     */
+    static final int QUANTUM = CHAR_OFFSET / 8;
+    /**
+     * Bit offset, within the first quantum, of the kind character.
+     */
+    private static final int KIND_SHIFT = 40 - 5 * 3;
+    /**
+     * Kinds, indexed by the value of their character in the ndau alphabet.
+     */
+    private static final Address.Kind[] KINDS = AddressKey.kindsByValue();
+
+    // suppress constructor: this is a utility class
+    private AddressKey() {
+    }
+
+    private static Address.Kind[] kindsByValue() {
+        final Address.Kind[] kinds = new Address.Kind[32];
+        for (final Address.Kind kind : Address.Kind.values()) {
+            final char c = (char) kind.toByte();
+            final String quantum = new String(new char[]{c, c, c, c, c, c, c, c});
+            kinds[(int) (Base32.NDAU_ENCODING.decodeQuantum(quantum, 0) & 31)] = kind;
+        }
+        return kinds;
+    }
+
+    /**
+     * Derive the key of a valid address string.
+     *
+     * @param addr a valid address
+     * @return the key
+     */
+    static long of(final CharSequence addr) {
+        return AddressKey.mix(
+                Base32.NDAU_ENCODING.decodeQuantum(addr, CHAR_OFFSET),
+                Base32.NDAU_ENCODING.decodeQuantum(addr, CHAR_OFFSET + 8),
+                Base32.NDAU_ENCODING.decodeQuantum(addr, CHAR_OFFSET + 16));
+    }
+
+    /**
+     * Derive the key of decoded address bytes.
+     *
+     * @param buf decoded address bytes
+     * @param off offset of the address in buf
+     * @return the key
+     */
+    static long of(final byte[] buf, final int off) {
+        return AddressKey.mix(
+                AddressKey.quantum(buf, off + BYTE_OFFSET),
+                AddressKey.quantum(buf, off + BYTE_OFFSET + 5),
+                AddressKey.quantum(buf, off + BYTE_OFFSET + 10));
+    }
+
+    private static long quantum(final byte[] buf, final int at) {
+        long q = 0;
+        for (int i = at; i < at + 5; i++) {
+            q = q << 8 | (buf[i] & 0xff);
+        }
+        return q;
+    }
+
+    /**
+     * Fold the three 40-bit key quanta of an address into a key.
+     *
+     * @param q0 the first key quantum
+     * @param q1 the second key quantum
+     * @param q2 the third key quantum
+     * @return the key
+     */
+    static long mix(final long q0, final long q1, final long q2) {
+        return AddressKey.fmix((q0 << 24 | q1 >>> 16) ^ (q1 << 40 | q2) * 0x9e3779b97f4a7c15L);
+    }
+
+    /**
+     * The 64-bit finalizer of MurmurHash3.
+     *
+     * @param k value to mix
+     * @return mixed value
+     */
+    static long fmix(final long k) {
+        long h = k;
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+
+    /**
+     * Get the kind of an address from its first quantum.
+     *
+     * @param q0 the first decoded quantum of a valid address
+     * @return the address's kind
+     */
+    static Address.Kind kind(final long q0) {
+        return KINDS[(int) (q0 >>> KIND_SHIFT) & 31];
+    }
+}
@@ -0,0 +1,233 @@
+/*
+ * This library is licensed under version 3.0 of the GNU Lesser General Public License as
+ * published by the Free Software Foundation.
+ *
+ * This software is distributed WITHOUT ANY WARRANTY; without even the implied
+ * warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License 3.0 for more details.
+ *
+ * Copyright © 2020 The Axiom Foundation
+ */
+
+package tech.ndau.address;
+
+import tech.ndau.b32.Base32;
+
+import java.util.Collection;
+
+/**
+ * Routes addresses to shards consistently.
+ * <p>
+ * Every address has a stable 64-bit key, derived from its decoded bytes rather
+ * than from its string's hashCode; see key. With uniform shards, keys are placed
+ * by jump consistent hashing, so growing from n to n + 1 shards moves only 1 / (n + 1)
+ * of addresses. With weighted shards, keys are placed by weighted rendezvous
+ * hashing; shards are identified by index, so a shard should be retired by setting
+ * its weight to 0 rather than by removing it.
+ * <p>
+ * Placement may differ per address kind: kinds given their own weights with
+ * withKindWeights use those, while the rest use the sharder's default placement.
+ * <p>
+ * Sharders are immutable and safe to share between threads.
+ */
+@SuppressWarnings("WeakerAccess")
+public final class AddressSharder {
+    private final int shards;
+    /**
+     * Weights by kind ordinal; a null entry means uniform jump hashing.
+     */
+    private final double[][] weights;
+
+    /**
+     * Create a sharder over uniformly weighted shards.
+     *
+     * @param shards number of shards
+     */
+    public AddressSharder(final int shards) {
+        this(shards, new double[Address.Kind.values().length][]);
+        if (shards <= 0) {
+            throw new IllegalArgumentException("shards must be positive");
+        }
+    }
+
+    /**
+     * Create a sharder over weighted shards.
+     * <p>
+     * Each shard receives a share of addresses proportional to its weight.
+     *
+     * @param weights non-negative weight of each shard; at least one must be positive
+     */
+    public AddressSharder(final double[] weights) {
+        this(weights.length, new double[Address.Kind.values().length][]);
+        final double[] w = AddressSharder.checkWeights(weights, weights.length);
+        for (int k = 0; k < this.weights.length; k++) {
+            this.weights[k] = w;
+        }
+    }
+
+    private AddressSharder(final int shards, final double[][] weights) {
+        this.shards = shards;
+        this.weights = weights;
+    }
+
+    private static double[] checkWeights(final double[] weights, final int shards) {
+        if (weights.length != shards) {
+            throw new IllegalArgumentException(
+                    String.format("expected %d weights, got %d", shards, weights.length));
+        }
+        boolean positive = false;
+        for (final double w : weights) {
+            if (!(w >= 0) || Double.isInfinite(w)) {
+                throw new IllegalArgumentException(String.format("invalid weight %f", w));
+            }
+            positive |= w > 0;
+        }
+        if (!positive) {
+            throw new IllegalArgumentException("at least one weight must be positive");
+        }
+        return weights.clone();
+    }
+
+    /**
+     * Create a sharder which places addresses of one kind by their own weights.
+     * <p>
+     * A weight of 0 keeps that kind off a shard entirely.
+     *
+     * @param kind    the kind of address to place
+     * @param weights non-negative weight of each shard for that kind
+     * @return a new sharder; this one is unchanged
+     */
+    public AddressSharder withKindWeights(final Address.Kind kind, final double[] weights) {
+        final double[][] w = this.weights.clone();
+        w[kind.ordinal()] = AddressSharder.checkWeights(weights, this.shards);
+        return new AddressSharder(this.shards, w);
+    }
+
+    /**
+     * Get the number of shards.
+     *
+     * @return the number of shards
+     */
+    public int shards() {
+        return this.shards;
+    }
+
+    /**
+     * Get the stable key of an address.
+     * <p>
+     * The key is the MurmurHash3 64-bit finalizer applied to
+     * {@code (q0 << 24 | q1 >>> 16) ^ (q1 << 40 | q2) * 0x9e3779b97f4a7c15},
+     * where q0, q1 and q2 are the last three 5-byte groups of the decoded address,
+     * read big-endian. It is the same in every process and on every platform.
+     *
+     * @param addr an address
+     * @return its key
+     */
+    public static long key(final Address addr) {
+        return AddressKey.of(addr.toString());
+    }
+
+    /**
+     * Route an address to a shard.
+     *
+     * @param addr an address
+     * @return the shard index, from 0 to shards() - 1
+     */
+    public int shard(final Address addr) {
+        final String s = addr.toString();
+        return this.shard(AddressKey.of(s), AddressKey.kind(Base32.NDAU_ENCODING.decodeQuantum(s, 0)));
+    }
+
+    /**
+     * Validate an address and route it to a shard.
+     *
+     * @param addr should be an ndau address
+     * @return the shard index, from 0 to shards() - 1
+     * @throws InvalidAddress if the provided string is not a valid address.
+     */
+    public int shard(final String addr) throws InvalidAddress {
+        Address.validate(addr);
+        return this.shard(AddressKey.of(addr), AddressKey.kind(Base32.NDAU_ENCODING.decodeQuantum(addr, 0)));
+    }
+
+    /**
+     * Route a list of packed addresses to shards.
+     *
+     * @param addrs addresses to route
+     * @return the shard index of each address, in list order
+     */
+    public int[] shardAll(final PackedAddresses addrs) {
+        final int[] out = new int[addrs.size()];
+        for (int i = 0; i < out.length; i++) {
+            final long key = AddressKey.mix(
+                    addrs.quantum(i, AddressKey.QUANTUM),
+                    addrs.quantum(i, AddressKey.QUANTUM + 1),
+                    addrs.quantum(i, AddressKey.QUANTUM + 2));
+            out[i] = this.shard(key, AddressKey.kind(addrs.quantum(i, 0)));
+        }
+        return out;
+    }
+
+    /**
+     * Validate a collection of addresses and route them to shards.
+     *
+     * @param addrs addresses to route
+     * @return the shard index of each address, in iteration order
+     * @throws InvalidAddress if any address is not valid
+     */
+    public int[] shardAll(final Collection<String> addrs) throws InvalidAddress {
+        return this.shardAll(PackedAddresses.decode(addrs));
+    }
+
+    private int shard(final long key, final Address.Kind kind) {
+        final double[] w = this.weights[kind.ordinal()];
+        return w == null ? AddressSharder.jump(key, this.shards) : AddressSharder.rendezvous(key, w);
+    }
+
+    /**
+     * Jump consistent hash, from Lamping and Veach, "A Fast, Minimal Memory,
+     * Consistent Hash Algorithm".
+     *
+     * @param key     key to place
+     * @param buckets number of buckets
+     * @return the bucket index, from 0 to buckets - 1
+     */
+    static int jump(final long key, final int buckets) {
+        long k = key;
+        long b = -1;
+        long j = 0;
+        while (j < buckets) {
+            b = j;
+            k = k * 2862933555777941757L + 1;
+            j = (long) ((b + 1) * ((double) (1L << 31) / (double) ((k >>> 33) + 1)));
+        }
+        return (int) b;
+    }
+
+    /**
+     * Weighted rendezvous hashing: the shard with the highest weight / -ln(u) wins,
+     * where u is a uniform draw in (0, 1) derived from the key and the shard index.
+     * StrictMath.log keeps placements identical on every JVM and platform.
+     *
+     * @param key     key to place
+     * @param weights weight of each shard
+     * @return the winning shard index
+     */
+    static int rendezvous(final long key, final double[] weights) {
+        int best = -1;
+        double bestScore = -1;
+        for (int i = 0; i < weights.length; i++) {
+            if (weights[i] == 0) {
+                continue;
+            }
+            final long h = AddressKey.fmix(key ^ AddressKey.fmix(i + 1));
+            final double u = ((h >>> 11) + 0.5) * 0x1.0p-53;
+            final double score = weights[i] / -StrictMath.log(u);
+            if (score > bestScore) {
+                best = i;
+                bestScore = score;
+            }
+        }
+        return best;
+    }
+}
@@ -0,0 +1,427 @@
+/*
+ * This library is licensed under version 3.0 of the GNU Lesser General Public License as
+ * published by the Free Software Foundation.
+ *
+ * This software is distributed WITHOUT ANY WARRANTY; without even the implied
+ * warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License 3.0 for more details.
+ *
+ * Copyright © 2020 The Axiom Foundation
+ */
+
+package tech.ndau.address;
+
+import tech.ndau.b32.Base32;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+/**
+ * A list of addresses packed into a primitive array of their decoded bytes.
+ * <p>
+ * Each address occupies WORDS consecutive longs, holding its 30 decoded bytes
+ * big-endian and zero-padded. This makes bulk sorting and set operations over
+ * millions of addresses cheap: there is one allocation for the whole list, and
+ * records are compared as a handful of unsigned longs.
+ * <p>
+ * Sorted order is the order of the decoded bytes. This is the order of the ndau
+ * alphabet, in which digits follow letters, so it is not the natural order of
+ * the address strings. It is, however, a total order, which is all that dedupe
+ * and the set operations require.
+ */
+@SuppressWarnings("WeakerAccess")
+public final class PackedAddresses {
+    /**
+     * Number of longs per packed address.
+     */
+    private static final int WORDS = 4;
+    /**
+     * Width in bits of a radix sort digit.
+     */
+    private static final int DIGIT_BITS = 16;
+    /**
+     * Number of buckets per radix sort pass.
+     */
+    private static final int BUCKETS = 1 << DIGIT_BITS;
+    /**
+     * Lists shorter than this are insertion sorted.
+     */
+    private static final int INSERTION_THRESHOLD = 64;
+    /**
+     * Lists shorter than this are sorted sequentially even when parallelism is requested.
+     */
+    private static final int PARALLEL_THRESHOLD = 1 << 16;
+
+    private long[] words;
+    private final int size;
+    private boolean sorted;
+
+    private PackedAddresses(final long[] words, final int size, final boolean sorted) {
+        this.words = words;
+        this.size = size;
+        this.sorted = sorted;
+    }
+
+    /**
+     * Validate and pack a collection of addresses.
+     *
+     * @param addrs addresses to pack
+     * @return the packed addresses, in the order of the collection
+     * @throws InvalidAddress if any address is not valid
+     */
+    public static PackedAddresses decode(final Collection<String> addrs) throws InvalidAddress {
+        final long[] words = new long[addrs.size() * WORDS];
+        final byte[] buf = new byte[Address.DECODED_LENGTH];
+        int i = 0;
+        for (final String addr : addrs) {
+            Address.decode(addr, buf, 0);
+            PackedAddresses.pack(buf, words, i * WORDS);
+            i++;
+        }
+        return new PackedAddresses(words, i, false);
+    }
+
+    private static void pack(final byte[] buf, final long[] words, final int at) {
+        for (int w = 0; w < WORDS; w++) {
+            long word = 0;
+            for (int b = 0; b < 8; b++) {
+                final int idx = w * 8 + b;
+                word = word << 8 | (idx < buf.length ? buf[idx] & 0xff : 0);
+            }
+            words[at + w] = word;
+        }
+    }
+
+    private static void unpack(final long[] words, final int at, final byte[] buf) {
+        for (int idx = 0; idx < buf.length; idx++) {
+            buf[idx] = (byte) (words[at + idx / 8] >>> (56 - 8 * (idx % 8)));
+        }
+    }
+
+    /**
+     * Get the number of addresses in this list.
+     *
+     * @return the number of addresses
+     */
+    public int size() {
+        return this.size;
+    }
+
+    /**
+     * Get an address from this list.
+     *
+     * @param i index of the address
+     * @return the address, in its string form
+     */
+    public String get(final int i) {
+        if (i < 0 || i >= this.size) {
+            throw new IndexOutOfBoundsException(String.format("index %d, size %d", i, this.size));
+        }
+        final byte[] buf = new byte[Address.DECODED_LENGTH];
+        PackedAddresses.unpack(this.words, i * WORDS, buf);
+        final char[] out = new char[Address.ADDR_LENGTH];
+        Base32.NDAU_ENCODING.encodeBlocks(buf, 0, buf.length, out, 0);
+        return new String(out);
+    }
+
+    /**
+     * Get one 40-bit base32 quantum of a packed address without decoding it.
+     *
+     * @param i index of the address
+     * @param q index of the quantum, from 0 to 5
+     * @return the quantum's 5 bytes, big-endian in the low 40 bits
+     */
+    long quantum(final int i, final int q) {
+        final int bit = q * 40;
+        final int at = i * WORDS + bit / Long.SIZE;
+        final int off = bit % Long.SIZE;
+        final long mask40 = (1L << 40) - 1;
+        if (off + 40 <= Long.SIZE) {
+            return (this.words[at] >>> (Long.SIZE - 40 - off)) & mask40;
+        }
+        final int spill = off + 40 - Long.SIZE;
+        return (this.words[at] << spill | this.words[at + 1] >>> (Long.SIZE - spill)) & mask40;
+    }
+
+    /**
+     * Get a read-only view of this list as strings.
+     * <p>
+     * Strings are encoded on access; nothing is cached.
+     *
+     * @return a list view
+     */
+    public List<String> asList() {
+        return new AbstractList<String>() {
+            @Override
+            public String get(final int index) {
+                return PackedAddresses.this.get(index);
+            }
+
+            @Override
+            public int size() {
+                return PackedAddresses.this.size;
+            }
+        };
+    }
+
+    /**
+     * Determine whether this list is known to be sorted.
+     *
+     * @return true if this list has been sorted
+     */
+    public boolean isSorted() {
+        return this.sorted;
+    }
+
+    /**
+     * Sort this list in place with an LSD radix sort over the decoded bytes.
+     */
+    public void sort() {
+        this.sort(false);
+    }
+
+    /**
+     * Sort this list in place, running each radix pass in parallel on the common pool.
+     * <p>
+     * Small lists are sorted sequentially.
+     */
+    public void parallelSort() {
+        this.sort(true);
+    }
+
+    private void sort(final boolean parallel) {
+        if (this.sorted) {
+            return;
+        }
+        if (this.size < INSERTION_THRESHOLD) {
+            this.insertionSort();
+        } else {
+            this.radixSort(parallel && this.size >= PARALLEL_THRESHOLD
+                    && ForkJoinPool.getCommonPoolParallelism() > 1);
+        }
+        this.sorted = true;
+    }
+
+    private void insertionSort() {
+        final long[] tmp = new long[WORDS];
+        for (int i = 1; i < this.size; i++) {
+            System.arraycopy(this.words, i * WORDS, tmp, 0, WORDS);
+            int j = i - 1;
+            while (j >= 0 && PackedAddresses.compare(this.words, j * WORDS, tmp, 0) > 0) {
+                System.arraycopy(this.words, j * WORDS, this.words, (j + 1) * WORDS, WORDS);
+                j--;
+            }
+            System.arraycopy(tmp, 0, this.words, (j + 1) * WORDS, WORDS);
+        }
+    }
+
+    private void radixSort(final boolean parallel) {
+        final int chunks = parallel ? ForkJoinPool.getCommonPoolParallelism() : 1;
+        final int chunkSize = (this.size + chunks - 1) / chunks;
+        final int[][] counts = new int[chunks][BUCKETS];
+        long[] src = this.words;
+        long[] dst = new long[src.length];
+
+        // least significant digit first: last word, lowest bits
+        for (int w = WORDS - 1; w >= 0; w--) {
+            for (int shift = 0; shift < Long.SIZE; shift += DIGIT_BITS) {
+                final long[] from = src;
+                final long[] to = dst;
+                final int word = w;
+                final int sh = shift;
+
+                final IntStream histogram = IntStream.range(0, chunks);
+                (parallel ? histogram.parallel() : histogram).forEach(c -> {
+                    final int[] count = counts[c];
+                    Arrays.fill(count, 0);
+                    final int end = Math.min(this.size, (c + 1) * chunkSize);
+                    for (int i = c * chunkSize; i < end; i++) {
+                        count[(int) (from[i * WORDS + word] >>> sh) & (BUCKETS - 1)]++;
+                    }
+                });
+
+                // turn counts into starting offsets, chunk-major within each bucket so
+                // that the scatter is stable. Skip the pass if every key shares a digit.
+                int offset = 0;
+                boolean trivial = false;
+                for (int d = 0; d < BUCKETS && !trivial; d++) {
+                    int total = 0;
+                    for (int c = 0; c < chunks; c++) {
+                        final int n = counts[c][d];
+                        counts[c][d] = offset;
+                        offset += n;
+                        total += n;
+                    }
+                    trivial = total == this.size;
+                }
+                if (trivial) {
+                    continue;
+                }
+
+                final IntStream scatter = IntStream.range(0, chunks);
+                (parallel ? scatter.parallel() : scatter).forEach(c -> {
+                    final int[] next = counts[c];
+                    final int end = Math.min(this.size, (c + 1) * chunkSize);
+                    for (int i = c * chunkSize; i < end; i++) {
+                        final int at = i * WORDS;
+                        final int d = (int) (from[at + word] >>> sh) & (BUCKETS - 1);
+                        System.arraycopy(from, at, to, next[d]++ * WORDS, WORDS);
+                    }
+                });
+
+                src = to;
+                dst = from;
+            }
+        }
+        this.words = src;
+    }
+
+    private static int compare(final long[] a, final int ai, final long[] b, final int bi) {
+        for (int w = 0; w < WORDS; w++) {
+            final int c = Long.compareUnsigned(a[ai + w], b[bi + w]);
+            if (c != 0) {
+                return c;
+            }
+        }
+        return 0;
+    }
+
+    private void requireSorted() {
+        if (!this.sorted) {
+            throw new IllegalStateException("operation requires a sorted list");
+        }
+    }
+
+    /**
+     * Remove duplicate addresses from a sorted list.
+     *
+     * @return a new sorted list in which each address appears once
+     * @throws IllegalStateException if this list is not sorted
+     */
+    public PackedAddresses distinct() {
+        this.requireSorted();
+        final Builder out = new Builder(this.size);
+        for (int i = 0; i < this.size; i++) {
+            out.appendDistinct(this.words, i * WORDS);
+        }
+        return out.build();
+    }
+
+    /**
+     * Compute the addresses appearing in either of two sorted lists.
+     *
+     * @param other another sorted list
+     * @return a new sorted list without duplicates
+     * @throws IllegalStateException if either list is not sorted
+     */
+    public PackedAddresses union(final PackedAddresses other) {
+        return this.merge(other, true, true, true);
+    }
+
+    /**
+     * Compute the addresses appearing in both of two sorted lists.
+     *
+     * @param other another sorted list
+     * @return a new sorted list without duplicates
+     * @throws IllegalStateException if either list is not sorted
+     */
+    public PackedAddresses intersection(final PackedAddresses other) {
+        return this.merge(other, false, true, false);
+    }
+
+    /**
+     * Compute the addresses appearing in this sorted list but not in another.
+     *
+     * @param other another sorted list
+     * @return a new sorted list without duplicates
+     * @throws IllegalStateException if either list is not sorted
+     */
+    public PackedAddresses difference(final PackedAddresses other) {
+        return this.merge(other, true, false, false);
+    }
+
+    /**
+     * Linear merge of two sorted lists.
+     *
+     * @param keepLeft  emit addresses found only in this list
+     * @param keepBoth  emit addresses found in both lists
+     * @param keepRight emit addresses found only in the other list
+     * @return the merged list
+     */
+    private PackedAddresses merge(
+            final PackedAddresses other,
+            final boolean keepLeft,
+            final boolean keepBoth,
+            final boolean keepRight
+    ) {
+        this.requireSorted();
+        other.requireSorted();
+        final int capacity = (keepLeft ? this.size : 0) + (keepRight ? other.size : 0)
+                + (keepBoth && !keepLeft && !keepRight ? Math.min(this.size, other.size) : 0);
+        final Builder out = new Builder(capacity);
+        int i = 0;
+        int j = 0;
+        while (i < this.size && j < other.size) {
+            final int c = PackedAddresses.compare(this.words, i * WORDS, other.words, j * WORDS);
+            if (c < 0) {
+                if (keepLeft) {
+                    out.appendDistinct(this.words, i * WORDS);
+                }
+                i++;
+            } else if (c > 0) {
+                if (keepRight) {
+                    out.appendDistinct(other.words, j * WORDS);
+                }
+                j++;
+            } else {
+                if (keepBoth) {
+                    out.appendDistinct(this.words, i * WORDS);
+                }
+                // skip the whole run of this address on both sides, so that a
+                // duplicate can't reappear as if it were found in only one list
+                final int at = i * WORDS;
+                do {
+                    i++;
+                } while (i < this.size && PackedAddresses.compare(this.words, i * WORDS, this.words, at) == 0);
+                do {
+                    j++;
+                } while (j < other.size && PackedAddresses.compare(other.words, j * WORDS, this.words, at) == 0);
+            }
+        }
+        for (; keepLeft && i < this.size; i++) {
+            out.appendDistinct(this.words, i * WORDS);
+        }
+        for (; keepRight && j < other.size; j++) {
+            out.appendDistinct(other.words, j * WORDS);
+        }
+        return out.build();
+    }
+
+    /**
+     * Accumulates sorted records, dropping consecutive duplicates.
+     */
+    private static final class Builder {
+        private final long[] words;
+        private int size;
+
+        Builder(final int capacity) {
+            this.words = new long[capacity * WORDS];
+        }
+
+        void appendDistinct(final long[] src, final int at) {
+            if (this.size > 0 && PackedAddresses.compare(this.words, (this.size - 1) * WORDS, src, at) == 0) {
+                return;
+            }
+            System.arraycopy(src, at, this.words, this.size * WORDS, WORDS);
+            this.size++;
+        }
+
+        PackedAddresses build() {
+            return new PackedAddresses(Arrays.copyOf(this.words, this.size * WORDS), this.size, true);
+        }
+    }
+}
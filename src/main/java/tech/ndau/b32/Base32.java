@@ -31,25 +31,21 @@ public final class Base32 {
      * It consists of the lowercase alphabet and digits, without
      * l, 1, 0, and o. When decoding, we accept either case.
      */
-    public static final Base32 NDAU_ENCODING;
+    public static final Base32 NDAU_ENCODING = new Base32("abcdefghijkmnpqrstuvwxyz23456789", true);
 
-    private static final int DECODE_MAP_SIZE = 256;
-    private static final String STD_ALPHABET = "ABCDEFGHIJKLMNOPQRSTUVWXYZ234567";
     /**
      * StdEncoding is the standard base32 encoding as defined in RFC 4648.
      */
-    public static final Base32 STD_ENCODING = new Base32(STD_ALPHABET);
-    private static final String NDAU_ALPHABET = "abcdefghijkmnpqrstuvwxyz23456789";
+    public static final Base32 STD_ENCODING = new Base32("ABCDEFGHIJKLMNOPQRSTUVWXYZ234567");
 
-    static {
-        NDAU_ENCODING = new Base32(NDAU_ALPHABET);
-        NDAU_ENCODING.foldLowercase = true;
-    }
+    private static final int DECODE_MAP_SIZE = 256;
 
-    private byte[] alphabet;
-    private byte[] decodeMap;
-    private byte padChar;
-    private boolean foldLowercase = false;
+    // All instance state is final and fixed by the constructor, so the standard
+    // encodings are safe to initialize at native-image build time.
+    private final byte[] alphabet;
+    private final byte[] decodeMap;
+    private final byte padChar;
+    private final boolean foldLowercase;
 
     /**
      * Create a base32 codec from an alphabet.
@@ -57,7 +53,18 @@ public final class Base32 {
      * @param alphabet the alphabet to use. Must be 32 bytes long. Each byte must be a valid character.
      */
     public Base32(final String alphabet) {
+        this(alphabet, false);
+    }
+
+    /**
+     * Create a base32 codec from an alphabet.
+     *
+     * @param alphabet      the alphabet to use. Must be 32 bytes long.
+     * @param foldLowercase when true, input is lowercased before decoding.
+     */
+    private Base32(final String alphabet, final boolean foldLowercase) {
         this.padChar = '=';
+        this.foldLowercase = foldLowercase;
         this.alphabet = alphabet.getBytes();
 
         if (this.alphabet.length != 32) {
@@ -197,6 +204,34 @@ public final class Base32 {
         return new String(outa);
     }
 
+    /**
+     * Encode whole quanta directly into a destination array, without padding.
+     * This is the counterpart of decodeBlocks.
+     *
+     * @param src    source bytes
+     * @param off    offset in src of the first byte to encode
+     * @param len    number of bytes to encode; must be a multiple of 5
+     * @param dst    destination array; encodedLen(len) chars are written to it
+     * @param dstOff offset in dst at which to begin writing
+     */
+    public void encodeBlocks(final byte[] src, final int off, final int len, final char[] dst, final int dstOff) {
+        if (len % 5 != 0) {
+            throw new IllegalArgumentException("length is not a multiple of 5");
+        }
+        int o = dstOff;
+        for (int i = off; i < off + len; i += 5) {
+            long quantum = 0;
+            for (int j = 0; j < 5; j++) {
+                quantum = quantum << 8 | (src[i + j] & 0xff);
+            }
+            for (int j = 7; j >= 0; j--) {
+                dst[o + j] = (char) this.alphabet[(int) quantum & 31];
+                quantum >>>= 5;
+            }
+            o += 8;
+        }
+    }
+
     private List<Byte> decode(final List<Byte> src) throws CorruptInputError {
         final int olen = src.size();
         boolean end = false;
@@ -278,6 +313,66 @@ public final class Base32 {
         return dst;
     }
 
+    /**
+     * Decode unpadded base32 data directly into a destination array.
+     * <p>
+     * This avoids the intermediate allocations of decodeString, which makes it
+     * suitable for decoding large numbers of fixed-width values such as addresses.
+     * The length of src must be a multiple of 8, and src must contain no padding.
+     *
+     * @param src base32-encoded data.
+     * @param dst destination array; decodedLen(src.length()) bytes are written to it.
+     * @param off offset in dst at which to begin writing.
+     * @throws CorruptInputError if src did not in fact encode base32 data with this encoder.
+     */
+    public void decodeBlocks(final CharSequence src, final byte[] dst, final int off) throws CorruptInputError {
+        final int len = src.length();
+        if (len % 8 != 0) {
+            throw new CorruptInputError(len - len % 8);
+        }
+        int o = off;
+        for (int i = 0; i < len; i += 8) {
+            final long quantum = this.decodeQuantum(src, i);
+            if (quantum < 0) {
+                throw new CorruptInputError((int) (-quantum - 1));
+            }
+            dst[o] = (byte) (quantum >>> 32);
+            dst[o + 1] = (byte) (quantum >>> 24);
+            dst[o + 2] = (byte) (quantum >>> 16);
+            dst[o + 3] = (byte) (quantum >>> 8);
+            dst[o + 4] = (byte) quantum;
+            o += 5;
+        }
+    }
+
+    /**
+     * Decode a single unpadded 8-character quantum without allocating.
+     * <p>
+     * Invalid input is reported through the return value rather than an exception,
+     * so that callers screening untrusted data don't pay for exception construction.
+     *
+     * @param src base32-encoded data; must have at least at + 8 characters.
+     * @param at  offset in src of the first character of the quantum.
+     * @return the 5 decoded bytes, big-endian in the low 40 bits; or, if a character
+     *     is invalid, (-(index of that character) - 1), which is always negative.
+     */
+    public long decodeQuantum(final CharSequence src, final int at) {
+        long quantum = 0;
+        for (int j = 0; j < 8; j++) {
+            char c = src.charAt(at + j);
+            // fold ASCII only: Character.toLowerCase maps lookalikes such as U+0130 onto the alphabet
+            if (this.foldLowercase && c >= 'A' && c <= 'Z') {
+                c += 'a' - 'A';
+            }
+            final byte v = c < DECODE_MAP_SIZE ? this.decodeMap[c] : (byte) 0xff;
+            if (v == (byte) 0xff) {
+                return -(at + j) - 1;
+            }
+            quantum = quantum << 5 | v;
+        }
+        return quantum;
+    }
+
     /**
      * Decode a string into the bytes that it represents.
      *
@@ -0,0 +1,280 @@
+/*
+ * This library is licensed under version 3.0 of the GNU Lesser General Public License as
+ * published by the Free Software Foundation.
+ *
+ * This software is distributed WITHOUT ANY WARRANTY; without even the implied
+ * warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License 3.0 for more details.
+ *
+ * Copyright © 2020 The Axiom Foundation
+ */
+
+package tech.ndau.address;
+
+import tech.ndau.b32.Base32;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+/**
+ * A deterministic generator of synthetic addresses, valid and otherwise.
+ * <p>
+ * Each address is a pure function of the seed, the flaw weights and its index
+ * in the corpus, so corpora repeat exactly across runs and machines, and can be
+ * generated in parallel or from any offset. Valid addresses are spread evenly
+ * over every Address.Kind.
+ * <p>
+ * This class ships in the test-jar artifact, for use by downstream load tests
+ * and benchmarks.
+ */
+@SuppressWarnings("WeakerAccess")
+public final class AddressCorpus {
+    /**
+     * The ways in which a generated address may fail Address.validate.
+     */
+    public enum Flaw {
+        /**
+         * A valid address.
+         */
+        None,
+        /**
+         * The address does not begin with "nd".
+         */
+        BadPrefix,
+        /**
+         * The address is too long or too short.
+         */
+        WrongLength,
+        /**
+         * The kind character is not a Kind.
+         */
+        BadKind,
+        /**
+         * The address contains a character outside the ndau alphabet.
+         */
+        BadCharacter,
+        /**
+         * The address is well-formed but its checksum does not match.
+         */
+        BadChecksum
+    }
+
+    private static final String ALPHABET = "abcdefghijkmnpqrstuvwxyz23456789";
+    private static final String NOT_ALPHABET = "01lo!-_+/=. ";
+    private static final String NOT_KINDS = "cdfghijkpqrstuvwyz23456789";
+    private static final Address.Kind[] KINDS = Address.Kind.values();
+    private static final Flaw[] FLAWS = Flaw.values();
+    private static final long GOLDEN_GAMMA = 0x9e3779b97f4a7c15L;
+    private static final int DATA_LENGTH = Address.DECODED_LENGTH - 2;
+
+    private final long seed;
+    /**
+     * Relative flaw weights, by ordinal.
+     */
+    private final double[] weights;
+    /**
+     * Cumulative flaw weights, normalized so the last is 1.
+     */
+    private final double[] cumulative;
+
+    /**
+     * Create a generator of valid addresses.
+     *
+     * @param seed the corpus seed
+     */
+    public AddressCorpus(final long seed) {
+        this(seed, AddressCorpus.weights(Flaw.None, 1));
+    }
+
+    private AddressCorpus(final long seed, final double[] weights) {
+        double total = 0;
+        for (final double w : weights) {
+            if (!(w >= 0) || Double.isInfinite(w)) {
+                throw new IllegalArgumentException(String.format("invalid weight %f", w));
+            }
+            total += w;
+        }
+        if (total == 0) {
+            throw new IllegalArgumentException("at least one weight must be positive");
+        }
+        this.seed = seed;
+        this.weights = weights;
+        this.cumulative = new double[weights.length];
+        double sum = 0;
+        for (int i = 0; i < weights.length; i++) {
+            sum += weights[i];
+            this.cumulative[i] = sum / total;
+        }
+        this.cumulative[weights.length - 1] = 1;
+    }
+
+    private static double[] weights(final Flaw flaw, final double weight) {
+        final double[] w = new double[FLAWS.length];
+        w[flaw.ordinal()] = weight;
+        return w;
+    }
+
+    /**
+     * Create a generator which produces a flaw with the given relative weight.
+     * <p>
+     * Weights are relative to each other; a new generator produces only valid
+     * addresses, with weight 1 for Flaw.None.
+     *
+     * @param flaw   the flaw to weight
+     * @param weight its non-negative relative weight
+     * @return a new generator with the same seed; this one is unchanged
+     */
+    public AddressCorpus withWeight(final Flaw flaw, final double weight) {
+        final double[] w = this.weights.clone();
+        w[flaw.ordinal()] = weight;
+        return new AddressCorpus(this.seed, w);
+    }
+
+    /**
+     * Get the flaw of an address in the corpus.
+     *
+     * @param index index of the address
+     * @return its flaw
+     */
+    public Flaw flaw(final long index) {
+        return this.pick(new SplitMix(this.seed, index).nextDouble());
+    }
+
+    private Flaw pick(final double u) {
+        for (int i = 0; i < this.cumulative.length - 1; i++) {
+            if (u < this.cumulative[i]) {
+                return FLAWS[i];
+            }
+        }
+        return FLAWS[FLAWS.length - 1];
+    }
+
+    /**
+     * Generate an address of the corpus.
+     *
+     * @param index index of the address
+     * @return the address
+     */
+    public String address(final long index) {
+        final SplitMix rng = new SplitMix(this.seed, index);
+        final Flaw flaw = this.pick(rng.nextDouble());
+        final char[] addr = AddressCorpus.valid(rng, flaw == Flaw.BadChecksum);
+        switch (flaw) {
+            case BadPrefix:
+                // any two alphabet characters but "nd"
+                final int p = 1 + rng.nextInt(ALPHABET.length() * ALPHABET.length() - 1);
+                final int nd = ALPHABET.indexOf('n') * ALPHABET.length() + ALPHABET.indexOf('d');
+                final int q = (nd + p) % (ALPHABET.length() * ALPHABET.length());
+                addr[0] = ALPHABET.charAt(q / ALPHABET.length());
+                addr[1] = ALPHABET.charAt(q % ALPHABET.length());
+                break;
+            case WrongLength:
+                final int delta = 1 + rng.nextInt(Address.ADDR_LENGTH - 3);
+                if (rng.nextInt(2) == 0) {
+                    return new String(addr, 0, Address.ADDR_LENGTH - delta);
+                }
+                final char[] longer = new char[Address.ADDR_LENGTH + delta];
+                System.arraycopy(addr, 0, longer, 0, addr.length);
+                for (int i = addr.length; i < longer.length; i++) {
+                    longer[i] = ALPHABET.charAt(rng.nextInt(ALPHABET.length()));
+                }
+                return new String(longer);
+            case BadKind:
+                addr[2] = NOT_KINDS.charAt(rng.nextInt(NOT_KINDS.length()));
+                break;
+            case BadCharacter:
+                final int at = 3 + rng.nextInt(Address.ADDR_LENGTH - 3);
+                addr[at] = NOT_ALPHABET.charAt(rng.nextInt(NOT_ALPHABET.length()));
+                break;
+            default:
+                break;
+        }
+        return new String(addr);
+    }
+
+    private static char[] valid(final SplitMix rng, final boolean corruptChecksum) {
+        final byte[] buf = new byte[Address.DECODED_LENGTH];
+        for (int i = 0; i < DATA_LENGTH; i += 8) {
+            long r = rng.nextLong();
+            for (int j = i; j < Math.min(i + 8, DATA_LENGTH); j++) {
+                buf[j] = (byte) r;
+                r >>>= 8;
+            }
+        }
+        // the first 15 bits spell "nd" and the kind
+        final Address.Kind kind = KINDS[rng.nextInt(KINDS.length)];
+        final int prefix = ALPHABET.indexOf('n') << 10 | ALPHABET.indexOf('d') << 5
+                | ALPHABET.indexOf(kind.toByte());
+        buf[0] = (byte) (prefix >>> 7);
+        buf[1] = (byte) (prefix << 1 | (buf[1] & 1));
+
+        int ck = Checksum.crc16(buf, 0, DATA_LENGTH);
+        if (corruptChecksum) {
+            ck ^= 1 + rng.nextInt(0xffff);
+        }
+        buf[DATA_LENGTH] = (byte) (ck >>> 8);
+        buf[DATA_LENGTH + 1] = (byte) ck;
+
+        final char[] addr = new char[Address.ADDR_LENGTH];
+        Base32.NDAU_ENCODING.encodeBlocks(buf, 0, buf.length, addr, 0);
+        return addr;
+    }
+
+    /**
+     * Stream addresses of the corpus.
+     * <p>
+     * The stream may be made parallel without affecting its contents.
+     *
+     * @param from  index of the first address
+     * @param count number of addresses
+     * @return the addresses, in index order
+     */
+    public Stream<String> stream(final long from, final long count) {
+        return LongStream.range(from, from + count).mapToObj(this::address);
+    }
+
+    /**
+     * Write addresses of the corpus, one per line.
+     *
+     * @param out   destination
+     * @param from  index of the first address
+     * @param count number of addresses
+     * @throws IOException if writing fails
+     */
+    public void write(final Writer out, final long from, final long count) throws IOException {
+        for (long i = from; i < from + count; i++) {
+            out.write(this.address(i));
+            out.write('\n');
+        }
+        out.flush();
+    }
+
+    /**
+     * SplitMix64, seeded by corpus seed and index.
+     */
+    private static final class SplitMix {
+        private long state;
+
+        SplitMix(final long seed, final long index) {
+            this.state = AddressKey.fmix(seed ^ AddressKey.fmix(index * GOLDEN_GAMMA));
+        }
+
+        long nextLong() {
+            this.state += GOLDEN_GAMMA;
+            long z = this.state;
+            z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+            z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+            return z ^ (z >>> 31);
+        }
+
+        double nextDouble() {
+            return (this.nextLong() >>> 11) * 0x1.0p-53;
+        }
+
+        int nextInt(final int bound) {
+            return (int) (((this.nextLong() >>> 32) * bound) >>> 32);
+        }
+    }
+}
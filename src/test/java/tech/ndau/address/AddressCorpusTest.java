@@ -0,0 +1,97 @@
+package tech.ndau.address;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AddressCorpusTest {
+    private static final Map<AddressCorpus.Flaw, String> REASONS = new EnumMap<>(AddressCorpus.Flaw.class);
+
+    static {
+        REASONS.put(AddressCorpus.Flaw.BadPrefix, "prefix");
+        REASONS.put(AddressCorpus.Flaw.WrongLength, "length");
+        REASONS.put(AddressCorpus.Flaw.BadKind, "Kind");
+        REASONS.put(AddressCorpus.Flaw.BadCharacter, "illegal base32 data");
+        REASONS.put(AddressCorpus.Flaw.BadChecksum, "checksum failure");
+    }
+
+    @ParameterizedTest
+    @EnumSource(AddressCorpus.Flaw.class)
+    void flawsFailValidationForTheirReason(final AddressCorpus.Flaw flaw) throws InvalidAddress {
+        final AddressCorpus corpus = new AddressCorpus(1)
+                .withWeight(flaw, 1)
+                .withWeight(AddressCorpus.Flaw.None, flaw == AddressCorpus.Flaw.None ? 1 : 0);
+        for (long i = 0; i < 2000; i++) {
+            assertEquals(flaw, corpus.flaw(i));
+            final String addr = corpus.address(i);
+            if (flaw == AddressCorpus.Flaw.None) {
+                Address.validate(addr);
+            } else {
+                final InvalidAddress e = assertThrows(InvalidAddress.class, () -> Address.validate(addr), addr);
+                assertTrue(e.getMessage().contains(REASONS.get(flaw)), e.getMessage());
+            }
+        }
+    }
+
+    @Test
+    void coversEveryKind() throws InvalidAddress {
+        final Map<Address.Kind, Integer> counts = new EnumMap<>(Address.Kind.class);
+        for (final String addr : new AddressCorpus(2).stream(0, 6000).collect(Collectors.toList())) {
+            counts.merge(new Address(addr).kind(), 1, Integer::sum);
+        }
+        for (final Address.Kind kind : Address.Kind.values()) {
+            assertTrue(Math.abs(counts.get(kind) - 1000) < 150, kind.toString());
+        }
+    }
+
+    @Test
+    void followsWeights() {
+        final AddressCorpus corpus = new AddressCorpus(3)
+                .withWeight(AddressCorpus.Flaw.None, 7)
+                .withWeight(AddressCorpus.Flaw.BadChecksum, 2)
+                .withWeight(AddressCorpus.Flaw.BadCharacter, 1);
+        final Map<AddressCorpus.Flaw, Integer> counts = new EnumMap<>(AddressCorpus.Flaw.class);
+        for (long i = 0; i < 10000; i++) {
+            counts.merge(corpus.flaw(i), 1, Integer::sum);
+        }
+        assertEquals(3, counts.size());
+        assertTrue(Math.abs(counts.get(AddressCorpus.Flaw.None) - 7000) < 300);
+        assertTrue(Math.abs(counts.get(AddressCorpus.Flaw.BadChecksum) - 2000) < 200);
+        assertTrue(Math.abs(counts.get(AddressCorpus.Flaw.BadCharacter) - 1000) < 150);
+    }
+
+    @Test
+    void repeatsAcrossRunsAndParallelism() throws IOException {
+        final AddressCorpus corpus = new AddressCorpus(4).withWeight(AddressCorpus.Flaw.WrongLength, 1);
+        final List<String> sequential = corpus.stream(100, 5000).collect(Collectors.toList());
+        final List<String> parallel = new AddressCorpus(4).withWeight(AddressCorpus.Flaw.WrongLength, 1)
+                .stream(100, 5000).parallel().collect(Collectors.toList());
+        assertEquals(sequential, parallel);
+        assertEquals(sequential.get(0), corpus.address(100));
+        assertNotEquals(sequential, new AddressCorpus(5).stream(100, 5000).collect(Collectors.toList()));
+
+        final StringWriter out = new StringWriter();
+        corpus.write(out, 100, 5000);
+        assertEquals(String.join("\n", sequential) + "\n", out.toString());
+    }
+
+    @Test
+    void rejectsBadWeights() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new AddressCorpus(0).withWeight(AddressCorpus.Flaw.None, 0));
+        assertThrows(IllegalArgumentException.class,
+                () -> new AddressCorpus(0).withWeight(AddressCorpus.Flaw.BadKind, -1));
+    }
+}
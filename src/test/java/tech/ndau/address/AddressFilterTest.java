@@ -0,0 +1,97 @@
+package tech.ndau.address;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AddressFilterTest {
+    private static double falsePositiveRate(final AddressFilter filter) {
+        final List<String> others = new AddressCorpus(-1).stream(0, 20000).collect(Collectors.toList());
+        int positives = 0;
+        for (final String addr : others) {
+            if (filter.mightContain(addr)) {
+                positives++;
+            }
+        }
+        return (double) positives / others.size();
+    }
+
+    @ParameterizedTest
+    @CsvSource({"8, 0.05", "16, 0.005"})
+    void containsMembersWithFewFalsePositives(final int bitsPerAddr, final double maxRate) throws InvalidAddress {
+        final List<String> members = new AddressCorpus(1).stream(0, 10000).collect(Collectors.toList());
+        final AddressFilter filter = AddressFilter.build(members, bitsPerAddr);
+        for (final String addr : members) {
+            assertTrue(filter.mightContain(addr), addr);
+            assertTrue(filter.mightContain(addr.toUpperCase()), addr);
+        }
+        assertTrue(falsePositiveRate(filter) < maxRate);
+    }
+
+    @Test
+    void rejectsMalformedStrings() throws InvalidAddress {
+        final String addr = "ndadprx764ciigti8d8whtw2kct733r85qvjukhqhke3dka4";
+        final AddressFilter filter = AddressFilter.build(Collections.singletonList(addr), 16);
+        assertTrue(filter.mightContain(addr));
+        assertFalse(filter.mightContain(addr.substring(1)));
+        assertFalse(filter.mightContain(addr.substring(0, 47) + "0"));
+        assertFalse(filter.mightContain(""));
+    }
+
+    @Test
+    void rejectsFiltersTooLargeToLoad() {
+        // one block over what a single ByteBuffer can hold
+        final List<String> addrs = Collections.nCopies(8, "ndadprx764ciigti8d8whtw2kct733r85qvjukhqhke3dka4");
+        assertThrows(IllegalArgumentException.class, () -> AddressFilter.build(addrs, Integer.MAX_VALUE));
+    }
+
+    @Test
+    void roundTripsThroughBuffer() throws InvalidAddress, IOException {
+        final List<String> members = new AddressCorpus(2).stream(0, 1000).collect(Collectors.toList());
+        final AddressFilter filter = AddressFilter.build(members, 16);
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        filter.writeTo(out);
+
+        final AddressFilter loaded = AddressFilter.readFrom(ByteBuffer.wrap(out.toByteArray()));
+        assertEquals(filter.sizeInBytes(), loaded.sizeInBytes());
+        for (final String addr : members) {
+            assertTrue(loaded.mightContain(addr));
+        }
+        assertEquals(falsePositiveRate(filter), falsePositiveRate(loaded));
+    }
+
+    @Test
+    void mapsFromFile(@TempDir final Path dir) throws InvalidAddress, IOException {
+        final List<String> members = new AddressCorpus(3).stream(0, 1000).collect(Collectors.toList());
+        final Path path = dir.resolve("blocklist.filter");
+        try (OutputStream out = Files.newOutputStream(path)) {
+            AddressFilter.build(members, 16).writeTo(out);
+        }
+        final AddressFilter mapped = AddressFilter.map(path);
+        for (final String addr : members) {
+            assertTrue(mapped.mightContain(addr));
+        }
+    }
+
+    @Test
+    void rejectsCorruptSerialization() {
+        assertThrows(IllegalArgumentException.class, () -> AddressFilter.readFrom(ByteBuffer.allocate(4)));
+        assertThrows(IllegalArgumentException.class, () -> AddressFilter.readFrom(ByteBuffer.allocate(64)));
+    }
+}
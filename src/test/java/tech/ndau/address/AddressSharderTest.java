@@ -0,0 +1,109 @@
+package tech.ndau.address;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AddressSharderTest {
+    private static final String KNOWN = "ndadprx764ciigti8d8whtw2kct733r85qvjukhqhke3dka4";
+
+    @Test
+    void keyIsStable() throws InvalidAddress {
+        // changing this value reshuffles every deployment: don't.
+        assertEquals(0x8dce1269b61e28f1L, AddressSharder.key(new Address(KNOWN)));
+    }
+
+    @Test
+    void weightedPlacementIsStable() throws InvalidAddress {
+        // as with keyIsStable: a change here moves addresses between weighted shards.
+        final AddressSharder sharder = new AddressSharder(new double[]{1, 2, 3, 4});
+        assertEquals(3, sharder.shard(new Address(KNOWN)));
+        final List<String> addrs = new AddressCorpus(5).stream(0, 16).collect(Collectors.toList());
+        assertArrayEquals(new int[]{0, 3, 3, 0, 3, 1, 3, 1, 2, 3, 2, 2, 2, 3, 2, 3}, sharder.shardAll(addrs));
+    }
+
+    @Test
+    void routesConsistentlyAcrossInputForms() throws InvalidAddress {
+        final List<String> addrs = new AddressCorpus(1).stream(0, 1000).collect(Collectors.toList());
+        final AddressSharder sharder = new AddressSharder(new double[]{1, 2, 3})
+                .withKindWeights(Address.Kind.Exchange, new double[]{0, 0, 1});
+        final int[] bulk = sharder.shardAll(addrs);
+        final int[] single = new int[addrs.size()];
+        for (int i = 0; i < single.length; i++) {
+            single[i] = sharder.shard(addrs.get(i));
+            assertEquals(single[i], sharder.shard(new Address(addrs.get(i))));
+        }
+        assertArrayEquals(single, bulk);
+    }
+
+    @Test
+    void jumpMovesOnlyToNewShard() throws InvalidAddress {
+        final List<String> addrs = new AddressCorpus(2).stream(0, 10000).collect(Collectors.toList());
+        int[] before = new AddressSharder(1).shardAll(addrs);
+        for (int n = 2; n <= 20; n++) {
+            final int[] after = new AddressSharder(n).shardAll(addrs);
+            int moved = 0;
+            for (int i = 0; i < after.length; i++) {
+                if (after[i] != before[i]) {
+                    assertEquals(n - 1, after[i]);
+                    moved++;
+                }
+            }
+            // expect addrs / n to move; allow generous slack
+            assertTrue(Math.abs(moved - addrs.size() / n) < addrs.size() / n / 2 + 100);
+            before = after;
+        }
+    }
+
+    @Test
+    void weightsAreProportional() throws InvalidAddress {
+        final List<String> addrs = new AddressCorpus(3).stream(0, 20000).collect(Collectors.toList());
+        final double[] weights = {1, 0, 2, 5};
+        final int[] counts = new int[weights.length];
+        for (final int s : new AddressSharder(weights).shardAll(addrs)) {
+            counts[s]++;
+        }
+        assertEquals(0, counts[1]);
+        for (int i = 0; i < weights.length; i++) {
+            final double expect = addrs.size() * weights[i] / 8;
+            assertTrue(Math.abs(counts[i] - expect) < addrs.size() * 0.02, String.valueOf(i));
+        }
+    }
+
+    @Test
+    void kindWeightsOnlyAffectThatKind() throws InvalidAddress {
+        final List<String> addrs = new AddressCorpus(4).stream(0, 5000).collect(Collectors.toList());
+        final AddressSharder base = new AddressSharder(8);
+        final AddressSharder split = base.withKindWeights(Address.Kind.Exchange, new double[]{0, 0, 0, 0, 0, 0, 0, 1});
+        for (final String addr : addrs) {
+            final Address a = new Address(addr);
+            if (a.kind() == Address.Kind.Exchange) {
+                assertEquals(7, split.shard(a));
+            } else {
+                assertEquals(base.shard(a), split.shard(a));
+            }
+        }
+    }
+
+    @Test
+    void rejectsBadWeights() {
+        assertThrows(IllegalArgumentException.class, () -> new AddressSharder(0));
+        assertThrows(IllegalArgumentException.class, () -> new AddressSharder(new double[]{0, 0}));
+        assertThrows(IllegalArgumentException.class, () -> new AddressSharder(new double[]{1, -1}));
+        assertThrows(IllegalArgumentException.class, () -> new AddressSharder(new double[]{1, Double.NaN}));
+        assertThrows(IllegalArgumentException.class,
+                () -> new AddressSharder(2).withKindWeights(Address.Kind.User, new double[]{1}));
+    }
+
+    @Test
+    void rejectsInvalidAddresses() {
+        assertThrows(InvalidAddress.class,
+                () -> new AddressSharder(4).shard("ndxdprx764ciigti8d8whtw2kct733r85qvjukhqhke3dka4"));
+    }
+}
@@ -20,6 +20,14 @@ class AddressTest {
         assertThrows(InvalidAddress.class, () -> Address.validate("ndxdprx764ciigti8d8whtw2kct733r85qvjukhqhke3dka4"));
     }
 
+    @Test
+    void lookalikeCharactersDoNotValidate() {
+        final String addr = "ndadprx764ciigti8d8whtw2kct733r85qvjukhqhke3dka4";
+        // U+0130 LATIN CAPITAL LETTER I WITH DOT ABOVE and U+212A KELVIN SIGN lowercase to i and k
+        assertThrows(InvalidAddress.class, () -> Address.validate(addr.replace('i', '\u0130')));
+        assertThrows(InvalidAddress.class, () -> Address.validate(addr.replace('k', '\u212a')));
+    }
+
     @Test
     void knownBadKeyDoesNotConstruct() {
         assertThrows(InvalidAddress.class, () -> new Address("ndxdprx764ciigti8d8whtw2kct733r85qvjukhqhke3dka4"));
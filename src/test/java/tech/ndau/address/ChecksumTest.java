@@ -0,0 +1,50 @@
+package tech.ndau.address;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ChecksumTest {
+    // bit-at-a-time reference implementation of AUG_CCITT
+    private static int referenceCrc(final byte[] data) {
+        int crc = Checksum.AUG_CCITT_INIT;
+        for (final byte b : data) {
+            crc ^= (b & 0xff) << 8;
+            for (int i = 0; i < 8; i++) {
+                crc = (crc & 0x8000) != 0 ? (crc << 1) ^ Checksum.AUG_CCITT_POLY : crc << 1;
+                crc &= 0xffff;
+            }
+        }
+        return crc;
+    }
+
+    @Test
+    void standardCheckValue() {
+        assertEquals(0xe5cc, Checksum.crc16("123456789".getBytes(), 0, 9));
+    }
+
+    @Test
+    void precomputedTableMatchesReference() {
+        final Random random = new Random(0);
+        for (int n = 0; n < 1024; n++) {
+            final byte[] data = new byte[n % 64];
+            random.nextBytes(data);
+            final int expect = referenceCrc(data);
+            assertEquals(expect, Checksum.crc16(data, 0, data.length));
+            assertArrayEquals(new byte[]{(byte) (expect >>> 8), (byte) expect}, Checksum.checksum16(data));
+        }
+    }
+
+    @Test
+    void checkRejectsWrongLengthOrNull() {
+        final byte[] data = "ndau".getBytes();
+        assertTrue(Checksum.check(data, Checksum.checksum16(data)));
+        assertFalse(Checksum.check(data, new byte[]{Checksum.checksum16(data)[0]}));
+        assertFalse(Checksum.check(data, null));
+    }
+}
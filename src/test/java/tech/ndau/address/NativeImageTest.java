@@ -0,0 +1,105 @@
+package tech.ndau.address;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.net.URISyntaxException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.Properties;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class NativeImageTest {
+    private static final String NATIVE_IMAGE_PROPERTIES =
+            "/META-INF/native-image/tech.ndau.ndauj/ndauj/native-image.properties";
+    private static final String BUILD_TIME_INIT = "--initialize-at-build-time=";
+
+    private static List<String> buildTimePackages() throws IOException {
+        final Properties props = new Properties();
+        try (InputStream in = NativeImageTest.class.getResourceAsStream(NATIVE_IMAGE_PROPERTIES)) {
+            assertNotNull(in);
+            props.load(in);
+        }
+        final List<String> packages = new ArrayList<>();
+        for (final String arg : props.getProperty("Args").trim().split("\\s+")) {
+            if (arg.startsWith(BUILD_TIME_INIT)) {
+                for (final String pkg : arg.substring(BUILD_TIME_INIT.length()).split(",")) {
+                    packages.add(pkg);
+                }
+            }
+        }
+        return packages;
+    }
+
+    // every class the library ships, from wherever the main classes were loaded
+    private static List<String> libraryClassFiles() throws IOException, URISyntaxException {
+        final Path root = Paths.get(Address.class.getProtectionDomain().getCodeSource().getLocation().toURI());
+        if (Files.isDirectory(root)) {
+            try (Stream<Path> files = Files.walk(root)) {
+                return files
+                        .map(f -> root.relativize(f).toString().replace('\\', '/'))
+                        .filter(f -> f.endsWith(".class"))
+                        .collect(Collectors.toList());
+            }
+        }
+        final List<String> out = new ArrayList<>();
+        try (JarFile jar = new JarFile(root.toFile())) {
+            final Enumeration<JarEntry> entries = jar.entries();
+            while (entries.hasMoreElements()) {
+                final String name = entries.nextElement().getName();
+                if (name.endsWith(".class")) {
+                    out.add(name);
+                }
+            }
+        }
+        return out;
+    }
+
+    @Test
+    void metadataInitializesBothPackagesAtBuildTime() throws IOException {
+        final List<String> packages = buildTimePackages();
+        assertTrue(packages.contains("tech.ndau.address"));
+        assertTrue(packages.contains("tech.ndau.b32"));
+    }
+
+    @Test
+    void buildTimeClassesHaveNoMutableStaticState() throws IOException, URISyntaxException, ClassNotFoundException {
+        final List<String> packages = buildTimePackages();
+        final List<Class<?>> classes = new ArrayList<>();
+        for (final String file : libraryClassFiles()) {
+            final String name = file.substring(0, file.length() - ".class".length()).replace('/', '.');
+            if (packages.contains(name.substring(0, name.lastIndexOf('.')))) {
+                classes.add(Class.forName(name, false, Address.class.getClassLoader()));
+            }
+        }
+        assertFalse(classes.isEmpty());
+        for (final Class<?> c : classes) {
+            for (final Field f : c.getDeclaredFields()) {
+                final int mod = f.getModifiers();
+                if (!Modifier.isStatic(mod) || f.isSynthetic()) {
+                    continue;
+                }
+                final String field = c.getName() + "." + f.getName();
+                assertTrue(Modifier.isFinal(mod), field + " must be final");
+                // a final array is still mutable; keep it where only its class can reach it
+                if (f.getType().isArray()) {
+                    assertTrue(Modifier.isPrivate(mod), field + " must be private");
+                }
+            }
+        }
+    }
+}
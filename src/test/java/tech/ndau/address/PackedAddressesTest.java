@@ -0,0 +1,128 @@
+package tech.ndau.address;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import tech.ndau.b32.Base32;
+import tech.ndau.b32.CorruptInputError;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PackedAddressesTest {
+    private static final Map<String, byte[]> DECODED = new HashMap<>();
+
+    private static final Comparator<String> DECODED_ORDER = (a, b) -> {
+        final byte[] x = DECODED.computeIfAbsent(a, PackedAddressesTest::decodeUnchecked);
+        final byte[] y = DECODED.computeIfAbsent(b, PackedAddressesTest::decodeUnchecked);
+        for (int i = 0; i < x.length; i++) {
+            final int c = Integer.compare(x[i] & 0xff, y[i] & 0xff);
+            if (c != 0) {
+                return c;
+            }
+        }
+        return 0;
+    };
+
+    private static byte[] decodeUnchecked(final String addr) {
+        try {
+            return Base32.NDAU_ENCODING.decodeString(addr);
+        } catch (final CorruptInputError e) {
+            throw new IllegalArgumentException(e);
+        }
+    }
+
+    // draws n addresses, with repeats, from a corpus of distinct ones
+    private static List<String> randomAddresses(final Random random, final int n, final int distinct) {
+        final List<String> pool = new AddressCorpus(random.nextLong()).stream(0, distinct)
+                .collect(Collectors.toList());
+        final List<String> out = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            out.add(pool.get(random.nextInt(distinct)));
+        }
+        return out;
+    }
+
+    @Test
+    void roundTrips() throws InvalidAddress {
+        final List<String> addrs = randomAddresses(new Random(1), 100, 100);
+        final PackedAddresses packed = PackedAddresses.decode(addrs);
+        assertEquals(addrs, packed.asList());
+    }
+
+    @Test
+    void rejectsInvalidAddresses() {
+        assertThrows(InvalidAddress.class, () -> PackedAddresses.decode(Collections.singletonList(
+                "ndxdprx764ciigti8d8whtw2kct733r85qvjukhqhke3dka4")));
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {0, 1, 10, 63, 64, 1000, 100000})
+    void sortsAndDedupes(final int n) throws InvalidAddress {
+        final List<String> addrs = randomAddresses(new Random(n), n, Math.max(1, n / 2));
+        final List<String> expect = new ArrayList<>(addrs);
+        expect.sort(DECODED_ORDER);
+
+        final PackedAddresses packed = PackedAddresses.decode(addrs);
+        packed.sort();
+        assertTrue(packed.isSorted());
+        assertEquals(expect, packed.asList());
+
+        final PackedAddresses parallel = PackedAddresses.decode(addrs);
+        parallel.parallelSort();
+        assertEquals(expect, parallel.asList());
+
+        final TreeSet<String> distinct = new TreeSet<>(DECODED_ORDER);
+        distinct.addAll(addrs);
+        assertEquals(new ArrayList<>(distinct), packed.distinct().asList());
+    }
+
+    @Test
+    void setOperations() throws InvalidAddress {
+        final Random random = new Random(2);
+        final List<String> pool = randomAddresses(random, 300, 300);
+        final List<String> left = new ArrayList<>(pool.subList(0, 200));
+        final List<String> right = new ArrayList<>(pool.subList(100, 300));
+        // duplicates on both sides must not leak into the results
+        left.addAll(pool.subList(150, 250));
+        right.addAll(pool.subList(50, 150));
+
+        final PackedAddresses a = PackedAddresses.decode(left);
+        final PackedAddresses b = PackedAddresses.decode(right);
+        a.sort();
+        b.sort();
+
+        final TreeSet<String> union = new TreeSet<>(DECODED_ORDER);
+        union.addAll(left);
+        union.addAll(right);
+        assertEquals(new ArrayList<>(union), a.union(b).asList());
+
+        final TreeSet<String> intersection = new TreeSet<>(DECODED_ORDER);
+        intersection.addAll(left);
+        intersection.retainAll(new TreeSet<>(right));
+        assertEquals(new ArrayList<>(intersection), a.intersection(b).asList());
+
+        final TreeSet<String> difference = new TreeSet<>(DECODED_ORDER);
+        difference.addAll(left);
+        difference.removeAll(new TreeSet<>(right));
+        assertEquals(new ArrayList<>(difference), a.difference(b).asList());
+    }
+
+    @Test
+    void setOperationsRequireSortedInput() throws InvalidAddress {
+        final PackedAddresses a = PackedAddresses.decode(randomAddresses(new Random(3), 10, 10));
+        assertThrows(IllegalStateException.class, a::distinct);
+        assertThrows(IllegalStateException.class, () -> a.union(a));
+    }
+}
@@ -1,13 +1,16 @@
 package tech.ndau.b32;
 
+import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.Arguments;
 import org.junit.jupiter.params.provider.MethodSource;
 
+import java.util.Arrays;
 import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
 class Base32Test {
 
@@ -123,4 +126,32 @@ class Base32Test {
         final byte[] out = Base32.NDAU_ENCODING.decodeString(encoded);
         assertArrayEquals(out, decoded);
     }
+
+    @ParameterizedTest
+    @MethodSource("ndauPairs")
+    void ndauEncodeBlocks(final byte[] decoded, final String encoded) {
+        final char[] out = new char[encoded.length() + 2];
+        Base32.NDAU_ENCODING.encodeBlocks(decoded, 0, decoded.length, out, 1);
+        assertEquals(encoded, new String(out, 1, encoded.length()));
+    }
+
+    @ParameterizedTest
+    @MethodSource("ndauPairs")
+    void ndauDecodeBlocks(final byte[] decoded, final String encoded) throws CorruptInputError {
+        final byte[] out = new byte[decoded.length + 2];
+        Base32.NDAU_ENCODING.decodeBlocks(encoded, out, 1);
+        assertArrayEquals(decoded, Arrays.copyOfRange(out, 1, decoded.length + 1));
+    }
+
+    @ParameterizedTest
+    @MethodSource("ndauPairs")
+    void ndauDecodeFoldsCase(final byte[] decoded, final String encoded) throws CorruptInputError {
+        final byte[] out = Base32.NDAU_ENCODING.decodeString(encoded.toUpperCase());
+        assertArrayEquals(out, decoded);
+    }
+
+    @Test
+    void stdDecodeDoesNotFoldCase() {
+        assertThrows(CorruptInputError.class, () -> Base32.STD_ENCODING.decodeString("mzxw6ytb"));
+    }
 }